@@ -7,22 +7,63 @@ import com.battle.heroes.army.programs.GeneratePreset;
 import java.util.*;
 
 public class GeneratePresetImpl implements GeneratePreset {
+    private final SplittableRandom random;
+    private final Formation formation;
+    private final GridAllocator gridAllocator;
+
+    public GeneratePresetImpl() {
+        this(new SplittableRandom(), Formation.SHUFFLED);
+    }
+
+    public GeneratePresetImpl(long seed) {
+        this(new SplittableRandom(seed), Formation.SHUFFLED);
+    }
+
+    public GeneratePresetImpl(long seed, Formation formation) {
+        this(new SplittableRandom(seed), formation);
+    }
+
+    private GeneratePresetImpl(SplittableRandom random, Formation formation) {
+        this.random = random;
+        this.formation = Objects.requireNonNull(formation, "formation");
+        this.gridAllocator = new GridAllocator();
+    }
 
     @Override
     public Army generate(List<Unit> unitList, int maxPoints) {
-        ArmyBuilder builder = new ArmyBuilder(unitList, maxPoints);
+        return generate(unitList, maxPoints, random);
+    }
+
+    public Army generate(List<Unit> unitList, int maxPoints, long seed) {
+        return generate(unitList, maxPoints, new SplittableRandom(seed));
+    }
+
+    public GeneratePresetImpl split() {
+        return new GeneratePresetImpl(random.split(), formation);
+    }
+
+    private Army generate(List<Unit> unitList, int maxPoints, SplittableRandom rng) {
+        int[] order = gridAllocator.allocate(formation, rng);
+        ArmyBuilder builder = new ArmyBuilder(unitList, maxPoints, order);
         return builder.build();
     }
 
+    public interface Formation {
+        Formation SHUFFLED = GridAllocator::shuffle;
+        Formation ORDERED = (order, rng) -> { };
+
+        void arrange(int[] order, SplittableRandom rng);
+    }
+
     private static class ArmyBuilder {
         private final List<Unit> availableTypes;
         private final int budget;
-        private final GridAllocator gridAllocator;
+        private final int[] cellOrder;
 
-        ArmyBuilder(List<Unit> types, int budget) {
+        ArmyBuilder(List<Unit> types, int budget, int[] cellOrder) {
             this.availableTypes = types;
             this.budget = budget;
-            this.gridAllocator = new GridAllocator();
+            this.cellOrder = cellOrder;
         }
 
         Army build() {
@@ -39,8 +80,6 @@ public class GeneratePresetImpl implements GeneratePreset {
 
         private List<Unit> instantiateUnits(PurchaseResult purchase) {
             List<Unit> units = new ArrayList<>();
-            List<GridCell> cells = gridAllocator.allocate();
-
             int cellIdx = 0;
 
             int typeIdx = 0;
@@ -49,8 +88,8 @@ public class GeneratePresetImpl implements GeneratePreset {
                 int quantity = purchase.quantities[typeIdx];
 
                 int instanceNum = 1;
-                while (instanceNum <= quantity && cellIdx < cells.size()) {
-                    GridCell cell = cells.get(cellIdx);
+                while (instanceNum <= quantity && cellIdx < cellOrder.length) {
+                    GridCell cell = GridAllocator.CELLS[cellOrder[cellIdx]];
 
                     Unit instance = new Unit(
                         prototype.getUnitType() + " " + instanceNum,
@@ -184,22 +223,48 @@ public class GeneratePresetImpl implements GeneratePreset {
     }
 
     private static class GridAllocator {
-        List<GridCell> allocate() {
-            List<GridCell> grid = new ArrayList<>();
+        static final GridCell[] CELLS = buildCells();
+
+        private final int[] order = new int[CELLS.length];
+
+        int[] allocate(Formation formation, SplittableRandom rng) {
+            int i = 0;
+            while (i < order.length) {
+                order[i] = i;
+                i++;
+            }
+
+            formation.arrange(order, rng);
 
+            return order;
+        }
+
+        static void shuffle(int[] order, SplittableRandom rng) {
+            int i = order.length - 1;
+            while (i > 0) {
+                int j = rng.nextInt(i + 1);
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+                i--;
+            }
+        }
+
+        private static GridCell[] buildCells() {
+            GridCell[] cells = new GridCell[3 * 21];
+
+            int idx = 0;
             int y = 0;
             while (y < 21) {
                 int x = 0;
                 while (x < 3) {
-                    grid.add(new GridCell(x, y));
+                    cells[idx++] = new GridCell(x, y);
                     x++;
                 }
                 y++;
             }
 
-            Collections.shuffle(grid);
-
-            return grid;
+            return cells;
         }
     }
 